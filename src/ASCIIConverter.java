@@ -0,0 +1,81 @@
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+/**
+ * @author noe
+ * <p>
+ * Conversion of an image to an ASCIIGrid, using only AWT so that it can run headless
+ */
+public final class ASCIIConverter {
+
+    //MARK:- CONSTANTS
+    private final static int IMAGE_TYPE = BufferedImage.TYPE_BYTE_GRAY;
+    private final static double MIN_RGB_VALUE = -Math.pow(2, 24), MAX_RGB_VALUE = 0;
+
+    private ASCIIConverter() {}
+
+    /**
+     * Return the grid representing an image with a given scale
+     *
+     * @param image            the reference image
+     * @param width            the width of the grid (in characters)
+     * @param height           the height of the grid (in characters)
+     * @param scale            the characters of the scale, from the darkest to the lightest cell
+     * @param onDarkBackground whether the grid is meant to be rendered on a dark background
+     * @return the grid representing the image
+     */
+    public static ASCIIGrid convert(BufferedImage image, int width, int height, Character[] scale, boolean onDarkBackground) {
+        BufferedImage grayImage = new GrayScaleImage(resize(image, width, height));
+
+        byte[][] indices = new byte[height][width];
+        byte[][] grays = new byte[height][width];
+
+        for (int r = 0; r < height; ++r) {
+            for (int c = 0; c < width; ++c) {
+                int rgb = grayImage.getRGB(c, r);
+                indices[r][c] = (byte) Math.round(map(rgb, MIN_RGB_VALUE, MAX_RGB_VALUE, 0, scale.length - 1));
+                grays[r][c] = (byte) rgb;
+            }
+        }
+        return new ASCIIGrid(scale.clone(), indices, grays, onDarkBackground, 0, 0, ASCIIGrid.DEFAULT_BACKGROUND_COLOR, null);
+    }
+
+    /**
+     * Resize an image to a given dimension
+     *
+     * @param image  the reference image
+     * @param width  the width of the resized image
+     * @param height the height of the resized image
+     * @return the resized image
+     */
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        Image resizedImage = image.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+        BufferedImage bufferedImage = new BufferedImage(width, height, IMAGE_TYPE);
+        Graphics2D graphics = bufferedImage.createGraphics();
+        graphics.drawImage(resizedImage, 0, 0, null);
+        graphics.dispose();
+
+        return bufferedImage;
+    }
+
+//MARK:- TOOLS
+
+    /**
+     * Map a number from a scale to another scale
+     *
+     * @param number      the number to scale
+     * @param firstLow    the lower bound of the first interval
+     * @param firstUpper  the upper bound of the first interval
+     * @param secondLow   the lower bound of the second interval
+     * @param secondUpper the upper bound of the second interval
+     * @return the mapped number
+     */
+    private static double map(double number, double firstLow, double firstUpper, double secondLow, double secondUpper) {
+        if ((firstLow > firstUpper) || (secondLow > secondUpper) || !(firstLow <= number && number <= firstUpper)) {
+            throw new IllegalArgumentException();
+        }
+        double ratio = (number - firstLow) / (firstUpper - firstLow);
+        return ratio * (secondUpper - secondLow) + secondLow;
+    }
+}
@@ -0,0 +1,220 @@
+import java.util.Arrays;
+
+/**
+ * @author noe
+ * <p>
+ * Grid of scale indices representing an ASCII render, with the page it is drawn on
+ */
+public class ASCIIGrid {
+
+    /**
+     * Maximum number of characters in a scale, so that an index fits in 4 bits next to the run escape
+     */
+    public static final int MAX_SCALE_LENGTH = 15;
+
+    /**
+     * Exclusive upper bound of the width and the height of a grid, the same as the render size of the GUI
+     */
+    public static final int MAX_DIMENSION = 10_000;
+
+    public static final int DEFAULT_BACKGROUND_COLOR = 0xFFFFFFFF;
+
+    private final Character[] scale;
+    private final byte[][] indices;
+    private final byte[][] grays;
+    private final boolean onDarkBackground;
+    private final int pageWidth;
+    private final int pageHeight;
+    private final int backgroundColor;
+    private final String font;
+
+    /**
+     * Constructor of ASCIIGrid, with a page fitted to the grid on a white background in the renderer font
+     *
+     * @param scale            the characters of the scale, an index of the grid refers to one of them
+     * @param indices          the scale index of each cell, row by row
+     * @param grays            the gray intensity (0 to 255) of each cell, or null if the grid has no gray plane
+     * @param onDarkBackground whether the grid is meant to be rendered on a dark background
+     */
+    public ASCIIGrid(Character[] scale, int[][] indices, int[][] grays, boolean onDarkBackground) {
+        this(scale, indices, grays, onDarkBackground, 0, 0, DEFAULT_BACKGROUND_COLOR, null);
+    }
+
+    /**
+     * Constructor of ASCIIGrid
+     *
+     * @param scale            the characters of the scale, an index of the grid refers to one of them
+     * @param indices          the scale index of each cell, row by row
+     * @param grays            the gray intensity (0 to 255) of each cell, or null if the grid has no gray plane
+     * @param onDarkBackground whether the grid is meant to be rendered on a dark background
+     * @param pageWidth        the width of the page (in px), or 0 to fit the page to the grid
+     * @param pageHeight       the height of the page (in px), or 0 to fit the page to the grid
+     * @param backgroundColor  the ARGB color of the page background
+     * @param font             the name of the font to draw the grid with, or null to use the renderer font
+     */
+    public ASCIIGrid(Character[] scale, int[][] indices, int[][] grays, boolean onDarkBackground,
+                     int pageWidth, int pageHeight, int backgroundColor, String font) {
+        if (scale.length == 0 || scale.length > MAX_SCALE_LENGTH) {
+            throw new IllegalArgumentException("Scale must have between 1 and " + MAX_SCALE_LENGTH + " characters");
+        }
+        if (grays != null && grays.length != indices.length) {
+            throw new IllegalArgumentException("Gray plane must have the same height as the grid");
+        }
+        if (pageWidth < 0 || pageHeight < 0) {
+            throw new IllegalArgumentException("Page dimensions must be positive");
+        }
+        int width = indices.length != 0 ? indices[0].length : 0;
+        for (int r = 0; r < indices.length; ++r) {
+            if (indices[r].length != width || (grays != null && grays[r].length != width)) {
+                throw new IllegalArgumentException("Grid rows must all have the same width");
+            }
+            for (int c = 0; c < width; ++c) {
+                if (indices[r][c] < 0 || indices[r][c] >= scale.length) {
+                    throw new IllegalArgumentException("Index out of the scale at (" + r + ", " + c + ")");
+                }
+                if (grays != null && (grays[r][c] < 0 || grays[r][c] > 255)) {
+                    throw new IllegalArgumentException("Gray out of [0, 255] at (" + r + ", " + c + ")");
+                }
+            }
+        }
+
+        this.scale = scale.clone();
+        this.indices = toBytes(indices);
+        this.grays = grays != null ? toBytes(grays) : null;
+        this.onDarkBackground = onDarkBackground;
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.backgroundColor = backgroundColor;
+        this.font = font;
+    }
+
+    /**
+     * Constructor of ASCIIGrid sharing its planes instead of copying them, for the grids built or read in
+     * this package. The caller gives up the planes and must have checked that every index is in the scale
+     *
+     * @param scale            the characters of the scale, an index of the grid refers to one of them
+     * @param indices          the scale index of each cell, row by row
+     * @param grays            the gray intensity (unsigned) of each cell, or null if the grid has no gray plane
+     * @param onDarkBackground whether the grid is meant to be rendered on a dark background
+     * @param pageWidth        the width of the page (in px), or 0 to fit the page to the grid
+     * @param pageHeight       the height of the page (in px), or 0 to fit the page to the grid
+     * @param backgroundColor  the ARGB color of the page background
+     * @param font             the name of the font to draw the grid with, or null to use the renderer font
+     */
+    ASCIIGrid(Character[] scale, byte[][] indices, byte[][] grays, boolean onDarkBackground,
+              int pageWidth, int pageHeight, int backgroundColor, String font) {
+        if (scale.length == 0 || scale.length > MAX_SCALE_LENGTH) {
+            throw new IllegalArgumentException("Scale must have between 1 and " + MAX_SCALE_LENGTH + " characters");
+        }
+        if (grays != null && grays.length != indices.length) {
+            throw new IllegalArgumentException("Gray plane must have the same height as the grid");
+        }
+        if (pageWidth < 0 || pageHeight < 0) {
+            throw new IllegalArgumentException("Page dimensions must be positive");
+        }
+
+        this.scale = scale;
+        this.indices = indices;
+        this.grays = grays;
+        this.onDarkBackground = onDarkBackground;
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.backgroundColor = backgroundColor;
+        this.font = font;
+    }
+
+    /**
+     * Return the grid drawn on another page, sharing the planes of this grid
+     *
+     * @param pageWidth       the width of the page (in px), or 0 to fit the page to the grid
+     * @param pageHeight      the height of the page (in px), or 0 to fit the page to the grid
+     * @param backgroundColor the ARGB color of the page background
+     * @param font            the name of the font to draw the grid with, or null to use the renderer font
+     * @return the grid drawn on the given page
+     */
+    public ASCIIGrid withPage(int pageWidth, int pageHeight, int backgroundColor, String font) {
+        return new ASCIIGrid(scale, indices, grays, onDarkBackground, pageWidth, pageHeight, backgroundColor, font);
+    }
+
+    public Character[] getScale() {
+        return scale.clone();
+    }
+
+    public int getHeight() {
+        return indices.length;
+    }
+
+    public int getWidth() {
+        return indices.length != 0 ? indices[0].length : 0;
+    }
+
+    public int getIndex(int row, int column) {
+        return indices[row][column];
+    }
+
+    public char getChar(int row, int column) {
+        return scale[indices[row][column]];
+    }
+
+    public boolean hasGrayPlane() {
+        return grays != null;
+    }
+
+    public int getGray(int row, int column) {
+        return grays[row][column] & 255;
+    }
+
+    public boolean isOnDarkBackground() {
+        return onDarkBackground;
+    }
+
+    public int getPageWidth() {
+        return pageWidth;
+    }
+
+    public int getPageHeight() {
+        return pageHeight;
+    }
+
+    public int getBackgroundColor() {
+        return backgroundColor;
+    }
+
+    public String getFont() {
+        return font;
+    }
+
+    /**
+     * Return String representation of the ASCIIGrid
+     *
+     * @return String representation of the ASCIIGrid
+     */
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("Scale used: ").append(Arrays.toString(scale)).append("\n");
+        for (byte[] row : indices) {
+            for (byte index : row) {
+                stringBuilder.append(scale[index]);
+            }
+            stringBuilder.append('\n');
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Copy a 2D array of values between 0 and 255 to bytes
+     *
+     * @param array the array to copy
+     * @return a copy of the array and of its rows, in bytes
+     */
+    private static byte[][] toBytes(int[][] array) {
+        byte[][] copy = new byte[array.length][];
+        for (int r = 0; r < array.length; ++r) {
+            copy[r] = new byte[array[r].length];
+            for (int c = 0; c < array[r].length; ++c) {
+                copy[r][c] = (byte) array[r][c];
+            }
+        }
+        return copy;
+    }
+}
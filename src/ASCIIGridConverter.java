@@ -0,0 +1,62 @@
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * @author noe
+ * <p>
+ * Convert every grid of an ASCII grid file back to text or PNG, without the source image
+ * <p>
+ * Usage: {@code ASCIIGridConverter <input.aag> <txt|png> <output directory>}
+ */
+public class ASCIIGridConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[1].equals("txt") || args[1].equals("png"))) {
+            System.err.println("Usage: ASCIIGridConverter <input.aag> <txt|png> <output directory>");
+            System.exit(1);
+        }
+
+        File input = new File(args[0]);
+        String format = args[1];
+        File outputDirectory = new File(args[2]);
+
+        try {
+            convert(input, format, outputDirectory, format.equals("png") ? new ImageASCIIJFX() : null);
+        } catch (Throwable e) {
+            System.err.println("Could not convert " + input + ": " + e);
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Convert every grid of a file, each one in its own output file
+     *
+     * @param input           the grid file to convert
+     * @param format          the output format, "txt" or "png"
+     * @param outputDirectory the directory where output files are written
+     * @param renderer        the renderer used for PNG output, unused for text output
+     * @throws IOException if the grid file can not be read or an output file can not be written
+     */
+    private static void convert(File input, String format, File outputDirectory, ImageASCIIJFX renderer) throws IOException {
+        try (ASCIIGridReader reader = new ASCIIGridReader(new FileInputStream(input))) {
+            if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+                throw new IOException("Can not create " + outputDirectory);
+            }
+            ASCIIGrid grid;
+            int count = 0;
+            while ((grid = reader.read()) != null) {
+                File output = new File(outputDirectory, "render-" + count++ + "." + format);
+                if (renderer == null) {
+                    Files.writeString(output.toPath(), grid.toString(), StandardCharsets.UTF_8);
+                } else if (!ImageIO.write(renderer.render(grid), "png", output)) {
+                    throw new IOException("No PNG writer for " + output);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author noe
+ * <p>
+ * Read a stream of ASCIIGrid written by an {@link ASCIIGridWriter}
+ */
+public class ASCIIGridReader implements Closeable {
+
+    private final DataInputStream in;
+    private int pendingNibble = -1;
+
+    /**
+     * Constructor of ASCIIGridReader, reads the stream header
+     *
+     * @param inputStream the stream to read from
+     * @throws IOException if the stream is not an ASCIIGrid stream
+     */
+    public ASCIIGridReader(InputStream inputStream) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != ASCIIGridWriter.MAGIC) {
+            throw new IOException("Not an ASCII grid stream");
+        }
+    }
+
+    /**
+     * Read the next grid of the stream
+     *
+     * @return the next grid, or null if the end of the stream is reached
+     * @throws IOException if the grid can not be read or is malformed
+     */
+    public ASCIIGrid read() throws IOException {
+        int marker = in.read();
+        if (marker == -1) {
+            return null;
+        }
+        if (marker != ASCIIGridWriter.GRID_MARKER) {
+            throw new IOException("Malformed ASCII grid stream");
+        }
+
+        int width = in.readInt();
+        int height = in.readInt();
+        int flags = in.readUnsignedByte();
+        if (width < 0 || height < 0 || width >= ASCIIGrid.MAX_DIMENSION || height >= ASCIIGrid.MAX_DIMENSION) {
+            throw new IOException("Malformed ASCII grid dimensions");
+        }
+        boolean grayPlane = (flags & ASCIIGridWriter.FLAG_GRAY_PLANE) != 0;
+        boolean indexPlane = (flags & ASCIIGridWriter.FLAG_INDEX_PLANE) != 0;
+        if (!grayPlane && !indexPlane) {
+            throw new IOException("Malformed ASCII grid planes");
+        }
+
+        Character[] scale = new Character[in.readUnsignedByte()];
+        if (scale.length == 0 || scale.length > ASCIIGrid.MAX_SCALE_LENGTH) {
+            throw new IOException("Malformed ASCII grid scale");
+        }
+        for (int i = 0; i < scale.length; ++i) {
+            scale[i] = in.readChar();
+        }
+        int pageWidth = in.readInt();
+        int pageHeight = in.readInt();
+        int backgroundColor = in.readInt();
+        String font = in.readUTF();
+
+        // rows are allocated as their data is read, so that a forged header does not allocate the whole grid
+        byte[][] indices = indexPlane ? readIndexPlane(width, height, scale.length) : null;
+        byte[][] grays = grayPlane ? readGrayPlane(width, height) : null;
+        if (indices == null) {
+            indices = new byte[height][];
+            for (int r = 0; r < height; ++r) {
+                indices[r] = new byte[width];
+                for (int c = 0; c < width; ++c) {
+                    indices[r][c] = (byte) ASCIIGridWriter.derivedIndex(grays[r][c] & 255, scale.length);
+                }
+            }
+        }
+
+        try {
+            return new ASCIIGrid(scale, indices, grays, (flags & ASCIIGridWriter.FLAG_DARK_BACKGROUND) != 0,
+                    pageWidth, pageHeight, backgroundColor, font.isEmpty() ? null : font);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed ASCII grid", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private byte[][] readIndexPlane(int width, int height, int scaleLength) throws IOException {
+        byte[][] indices = emptyRows(width, height);
+        int cells = width * height;
+
+        int cell = 0;
+        while (cell < cells) {
+            int nibble = readNibble();
+            int runLength = 1;
+            if (nibble == ASCIIGridWriter.RUN_ESCAPE) {
+                nibble = readNibble();
+                runLength = (readNibble() << 4 | readNibble()) + ASCIIGridWriter.MIN_RUN_LENGTH;
+                if (cell + runLength > cells) {
+                    throw new IOException("Malformed ASCII grid run");
+                }
+            }
+            if (nibble >= scaleLength) {
+                throw new IOException("Malformed ASCII grid index");
+            }
+            for (int i = 0; i < runLength; ++i, ++cell) {
+                row(indices, cell / width, width)[cell % width] = (byte) nibble;
+            }
+        }
+        // the padding of the last byte
+        pendingNibble = -1;
+
+        return indices;
+    }
+
+    private int readNibble() throws IOException {
+        if (pendingNibble != -1) {
+            int nibble = pendingNibble;
+            pendingNibble = -1;
+            return nibble;
+        }
+        int b = in.readUnsignedByte();
+        pendingNibble = b & 0xF;
+        return b >> 4;
+    }
+
+    private byte[][] readGrayPlane(int width, int height) throws IOException {
+        byte[][] grays = emptyRows(width, height);
+        int cells = width * height;
+
+        int cell = 0;
+        while (cell < cells) {
+            byte header = in.readByte();
+            if (header == -128) {
+                continue;
+            }
+            int length = header >= 0 ? header + 1 : 1 - header;
+            if (cell + length > cells) {
+                throw new IOException("Malformed ASCII grid gray run");
+            }
+            byte gray = header < 0 ? in.readByte() : 0;
+            for (int i = 0; i < length; ++i, ++cell) {
+                row(grays, cell / width, width)[cell % width] = header < 0 ? gray : in.readByte();
+            }
+        }
+        return grays;
+    }
+
+    /**
+     * Return the rows of a plane, not allocated yet unless the grid has no column
+     *
+     * @param width  the width of the grid
+     * @param height the height of the grid
+     * @return the rows of the plane
+     */
+    private static byte[][] emptyRows(int width, int height) {
+        byte[][] rows = new byte[height][];
+        if (width == 0) {
+            for (int r = 0; r < height; ++r) {
+                rows[r] = new byte[0];
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Return a row of a plane, allocating it on its first cell
+     *
+     * @param rows  the rows of the plane
+     * @param row   the index of the row
+     * @param width the width of the grid
+     * @return the row
+     */
+    private static byte[] row(byte[][] rows, int row, int width) {
+        if (rows[row] == null) {
+            rows[row] = new byte[width];
+        }
+        return rows[row];
+    }
+}
@@ -0,0 +1,227 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @author noe
+ * <p>
+ * Write a stream of ASCIIGrid in a compact binary format.
+ * <p>
+ * The stream starts with {@link #MAGIC}, followed by any number of grids, each one made of:
+ * <ul>
+ *     <li>the byte {@link #GRID_MARKER}</li>
+ *     <li>the width and the height of the grid (int)</li>
+ *     <li>a flags byte ({@link #FLAG_GRAY_PLANE}, {@link #FLAG_DARK_BACKGROUND}, {@link #FLAG_INDEX_PLANE})</li>
+ *     <li>the scale length (byte) and its characters (char)</li>
+ *     <li>the page width and height (int, 0 to fit the grid), its ARGB background color (int)
+ *     and the font name (UTF, empty for the renderer font)</li>
+ *     <li>if the grid has an index plane, the scale indices row by row, packed as 4-bit nibbles
+ *     (high nibble first, the last byte padded with 0): a nibble below {@link #RUN_ESCAPE} is the index
+ *     of one cell, {@link #RUN_ESCAPE} is followed by the index of a run and two nibbles holding its
+ *     length minus {@link #MIN_RUN_LENGTH}</li>
+ *     <li>if the grid has a gray plane, the gray intensities row by row, PackBits encoded: a header byte
+ *     n in [0, 127] is followed by n + 1 literal bytes, a header byte n in [-127, -1] is followed by one
+ *     byte repeated 1 - n times</li>
+ * </ul>
+ * The index plane is left out when every index can be derived from the gray plane with
+ * {@link #derivedIndex}, as it is for grids built by {@link ASCIIConverter#convert}. That mapping is part of
+ * the format: a change of the converter mapping only makes the writer keep the index plane.
+ */
+public class ASCIIGridWriter implements Closeable {
+
+    public static final int MAGIC = 0x41414731; // "AAG1"
+    public static final int GRID_MARKER = 0x47;
+    public static final int FLAG_GRAY_PLANE = 1;
+    public static final int FLAG_DARK_BACKGROUND = 1 << 1;
+    public static final int FLAG_INDEX_PLANE = 1 << 2;
+    public static final int RUN_ESCAPE = 0xF;
+    public static final int MIN_RUN_LENGTH = 5;
+    public static final int MAX_RUN_LENGTH = MIN_RUN_LENGTH + 0xFF;
+    public static final int MAX_PACKBITS_LENGTH = 128;
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream plane = new ByteArrayOutputStream();
+    private int pendingNibble = -1;
+
+    /**
+     * Constructor of ASCIIGridWriter, writes the stream header
+     *
+     * @param outputStream the stream to write to
+     * @throws IOException if the header can not be written
+     */
+    public ASCIIGridWriter(OutputStream outputStream) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+    }
+
+    /**
+     * Append a grid to the stream
+     *
+     * @param grid the grid to write
+     * @throws IOException if the grid can not be written
+     */
+    public void write(ASCIIGrid grid) throws IOException {
+        Character[] scale = grid.getScale();
+        boolean indexPlane = !grid.hasGrayPlane() || !isDerivedFromGrays(grid);
+
+        out.writeByte(GRID_MARKER);
+        out.writeInt(grid.getWidth());
+        out.writeInt(grid.getHeight());
+        out.writeByte((grid.hasGrayPlane() ? FLAG_GRAY_PLANE : 0)
+                | (grid.isOnDarkBackground() ? FLAG_DARK_BACKGROUND : 0)
+                | (indexPlane ? FLAG_INDEX_PLANE : 0));
+        out.writeByte(scale.length);
+        for (char c : scale) {
+            out.writeChar(c);
+        }
+        out.writeInt(grid.getPageWidth());
+        out.writeInt(grid.getPageHeight());
+        out.writeInt(grid.getBackgroundColor());
+        out.writeUTF(grid.getFont() != null ? grid.getFont() : "");
+
+        if (indexPlane) {
+            writeIndexPlane(grid);
+        }
+        if (grid.hasGrayPlane()) {
+            writeGrayPlane(grid);
+        }
+    }
+
+    /**
+     * Flush the underlying stream
+     *
+     * @throws IOException if the stream can not be flushed
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Return whether every index of a grid is the one derived from its gray plane
+     *
+     * @param grid the grid, with a gray plane
+     * @return whether the index plane can be left out
+     */
+    private boolean isDerivedFromGrays(ASCIIGrid grid) {
+        int scaleLength = grid.getScale().length;
+        for (int r = 0; r < grid.getHeight(); ++r) {
+            for (int c = 0; c < grid.getWidth(); ++c) {
+                if (grid.getIndex(r, c) != derivedIndex(grid.getGray(r, c), scaleLength)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the scale index of a cell derived from its gray intensity, when the index plane is left out.
+     * <p>
+     * This is the mapping of ASCIIConverter when the format was defined. It must never change, or the files
+     * already written would be read differently
+     *
+     * @param gray        the gray intensity of the cell, between 0 and 255
+     * @param scaleLength the number of characters in the scale
+     * @return the scale index of the cell
+     */
+    static int derivedIndex(int gray, int scaleLength) {
+        return (int) Math.round(gray * 0x010101 / (double) 0x1000000 * (scaleLength - 1));
+    }
+
+    private void writeIndexPlane(ASCIIGrid grid) throws IOException {
+        int cells = grid.getWidth() * grid.getHeight();
+        int width = grid.getWidth();
+        plane.reset();
+
+        int cell = 0;
+        while (cell < cells) {
+            int index = grid.getIndex(cell / width, cell % width);
+            int runLength = 1;
+            while (cell + runLength < cells && runLength < MAX_RUN_LENGTH
+                    && grid.getIndex((cell + runLength) / width, (cell + runLength) % width) == index) {
+                ++runLength;
+            }
+
+            if (runLength >= MIN_RUN_LENGTH) {
+                writeNibble(RUN_ESCAPE);
+                writeNibble(index);
+                writeNibble((runLength - MIN_RUN_LENGTH) >> 4);
+                writeNibble((runLength - MIN_RUN_LENGTH) & 0xF);
+            } else {
+                for (int i = 0; i < runLength; ++i) {
+                    writeNibble(index);
+                }
+            }
+            cell += runLength;
+        }
+        writeNibble(-1);
+
+        plane.writeTo(out);
+    }
+
+    /**
+     * Append a nibble to the plane, or pad the last byte with 0 if the nibble is -1
+     *
+     * @param nibble the nibble to append, or -1 to flush the pending one
+     */
+    private void writeNibble(int nibble) {
+        if (nibble == -1) {
+            if (pendingNibble != -1) {
+                plane.write(pendingNibble << 4);
+                pendingNibble = -1;
+            }
+        } else if (pendingNibble == -1) {
+            pendingNibble = nibble;
+        } else {
+            plane.write(pendingNibble << 4 | nibble);
+            pendingNibble = -1;
+        }
+    }
+
+    private void writeGrayPlane(ASCIIGrid grid) throws IOException {
+        int cells = grid.getWidth() * grid.getHeight();
+        int width = grid.getWidth();
+        byte[] grays = new byte[cells];
+        for (int cell = 0; cell < cells; ++cell) {
+            grays[cell] = (byte) grid.getGray(cell / width, cell % width);
+        }
+        plane.reset();
+
+        int cell = 0;
+        while (cell < cells) {
+            int runLength = runLength(grays, cell);
+            if (runLength >= 2) {
+                plane.write(1 - runLength);
+                plane.write(grays[cell]);
+                cell += runLength;
+            } else {
+                // literals up to the next run of at least 3 bytes, which is worth its own header
+                int literals = 1;
+                while (cell + literals < cells && literals < MAX_PACKBITS_LENGTH && runLength(grays, cell + literals) < 3) {
+                    ++literals;
+                }
+                plane.write(literals - 1);
+                plane.write(grays, cell, literals);
+                cell += literals;
+            }
+        }
+
+        plane.writeTo(out);
+    }
+
+    private int runLength(byte[] bytes, int from) {
+        int length = 1;
+        while (from + length < bytes.length && length < MAX_PACKBITS_LENGTH && bytes[from + length] == bytes[from]) {
+            ++length;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,255 @@
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author noe
+ * <p>
+ * Rasterized glyphs of the renderer fonts with their metrics, created once per font, size and character,
+ * and tinted once per gray intensity.
+ * <p>
+ * The cache can be saved to a file and loaded back on a later start, so that the cached glyphs are drawn
+ * without loading their font
+ */
+public final class GlyphCache {
+
+    public static final int MAGIC = 0x41474331; // "AGC1"
+
+    /**
+     * Maximum width and height of a cached glyph (in px)
+     */
+    private static final int MAX_GLYPH_SIZE = 256;
+
+    private static final FontRenderContext RENDER_CONTEXT = new FontRenderContext(null, true, true);
+
+    private final Map<String, Map<Character, Glyph>> glyphs = new HashMap<>();
+
+    /**
+     * Rasterized glyph of a character, as an alpha mask, with the metrics of its font
+     */
+    public static final class Glyph {
+
+        private final float advance;
+        private final float ascent;
+        private final float descent;
+        private final int originX;
+        private final int originY;
+        private final int width;
+        private final int height;
+        private final byte[] alpha;
+        private final BufferedImage[] tinted = new BufferedImage[256];
+
+        private Glyph(float advance, float ascent, float descent, int originX, int originY, int width, int height, byte[] alpha) {
+            this.advance = advance;
+            this.ascent = ascent;
+            this.descent = descent;
+            this.originX = originX;
+            this.originY = originY;
+            this.width = width;
+            this.height = height;
+            this.alpha = alpha;
+        }
+
+        public float getAdvance() {
+            return advance;
+        }
+
+        public float getAscent() {
+            return ascent;
+        }
+
+        public float getDescent() {
+            return descent;
+        }
+
+        /**
+         * Return whether the glyph has no pixel to draw, like a space
+         *
+         * @return whether the glyph has no pixel to draw
+         */
+        public boolean isBlank() {
+            return width == 0 || height == 0;
+        }
+
+        /**
+         * Return the glyph in a gray, creating it only once
+         *
+         * @param gray the gray intensity, between 0 and 255
+         * @return an image of the glyph in the gray, or null if the glyph has no pixel
+         */
+        public synchronized BufferedImage getImage(int gray) {
+            if (isBlank()) {
+                return null;
+            }
+            if (tinted[gray] == null) {
+                BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                int rgb = gray << 16 | gray << 8 | gray;
+                for (int i = 0; i < alpha.length; ++i) {
+                    image.setRGB(i % width, i / width, (alpha[i] & 255) << 24 | rgb);
+                }
+                tinted[gray] = image;
+            }
+            return tinted[gray];
+        }
+
+        /**
+         * Draw the glyph
+         *
+         * @param graphics the graphics to draw on
+         * @param image    the glyph in the gray to draw, from {@link #getImage}
+         * @param x        the x coordinate of the glyph origin
+         * @param baseline the y coordinate of the baseline
+         */
+        public void draw(Graphics2D graphics, BufferedImage image, double x, double baseline) {
+            if (image != null) {
+                graphics.drawImage(image, (int) Math.round(x) - originX, (int) Math.round(baseline) - originY, null);
+            }
+        }
+    }
+
+    /**
+     * Return the glyph of a character in a font, rasterizing it on first use
+     *
+     * @param font      the font of the glyph, loaded only if the glyph is not cached
+     * @param size      the size of the font
+     * @param character the character
+     * @return the glyph of the character
+     */
+    public synchronized Glyph getGlyph(ImageASCIIJFX.Fonts font, int size, char character) {
+        return glyphs.computeIfAbsent(key(font, size), k -> new HashMap<>())
+                .computeIfAbsent(character, c -> rasterize(font.getFont().deriveFont((float) size), c));
+    }
+
+    /**
+     * Return the number of cached glyphs
+     *
+     * @return the number of cached glyphs
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Map<Character, Glyph> fontGlyphs : glyphs.values()) {
+            size += fontGlyphs.size();
+        }
+        return size;
+    }
+
+    /**
+     * Write every cached glyph: {@link #MAGIC}, then for each font the font key (UTF) and its number of glyphs
+     * (int), then for each glyph its character (char), advance, ascent and descent (float), its origin, width
+     * and height in the mask (int) and its alpha mask (width * height bytes, row by row)
+     *
+     * @param outputStream the stream to write to, not closed
+     * @throws IOException if the glyphs can not be written
+     */
+    public synchronized void save(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(glyphs.size());
+        for (Map.Entry<String, Map<Character, Glyph>> fontGlyphs : glyphs.entrySet()) {
+            out.writeUTF(fontGlyphs.getKey());
+            out.writeInt(fontGlyphs.getValue().size());
+            for (Map.Entry<Character, Glyph> entry : fontGlyphs.getValue().entrySet()) {
+                Glyph glyph = entry.getValue();
+                out.writeChar(entry.getKey());
+                out.writeFloat(glyph.advance);
+                out.writeFloat(glyph.ascent);
+                out.writeFloat(glyph.descent);
+                out.writeInt(glyph.originX);
+                out.writeInt(glyph.originY);
+                out.writeInt(glyph.width);
+                out.writeInt(glyph.height);
+                out.write(glyph.alpha);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Add the glyphs written by {@link #save} to the cache
+     *
+     * @param inputStream the stream to read from, not closed
+     * @throws IOException if the glyphs can not be read or are malformed
+     */
+    public synchronized void load(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a glyph cache");
+        }
+        Map<String, Map<Character, Glyph>> read = new HashMap<>();
+        int fonts = in.readInt();
+        for (int f = 0; f < fonts; ++f) {
+            Map<Character, Glyph> fontGlyphs = read.computeIfAbsent(in.readUTF(), k -> new HashMap<>());
+            int count = in.readInt();
+            for (int g = 0; g < count; ++g) {
+                char character = in.readChar();
+                float advance = in.readFloat();
+                float ascent = in.readFloat();
+                float descent = in.readFloat();
+                int originX = in.readInt();
+                int originY = in.readInt();
+                int width = in.readInt();
+                int height = in.readInt();
+                if (width < 0 || height < 0 || width > MAX_GLYPH_SIZE || height > MAX_GLYPH_SIZE) {
+                    throw new IOException("Malformed glyph cache");
+                }
+                byte[] alpha = new byte[width * height];
+                in.readFully(alpha);
+                fontGlyphs.put(character, new Glyph(advance, ascent, descent, originX, originY, width, height, alpha));
+            }
+        }
+        for (Map.Entry<String, Map<Character, Glyph>> fontGlyphs : read.entrySet()) {
+            glyphs.computeIfAbsent(fontGlyphs.getKey(), k -> new HashMap<>()).putAll(fontGlyphs.getValue());
+        }
+    }
+
+//MARK:- TOOLS
+
+    private static String key(ImageASCIIJFX.Fonts font, int size) {
+        return font.name() + "/" + size;
+    }
+
+    /**
+     * Rasterize a character as an alpha mask, anti-aliased
+     *
+     * @param font      the font of the character, with its size
+     * @param character the character
+     * @return the glyph of the character
+     */
+    private static Glyph rasterize(Font font, char character) {
+        String text = String.valueOf(character);
+        GlyphVector vector = font.createGlyphVector(RENDER_CONTEXT, text);
+        LineMetrics metrics = font.getLineMetrics(text, RENDER_CONTEXT);
+        Rectangle bounds = vector.getPixelBounds(RENDER_CONTEXT, 0, 0);
+        int width = Math.min(bounds.width, MAX_GLYPH_SIZE);
+        int height = Math.min(bounds.height, MAX_GLYPH_SIZE);
+
+        byte[] alpha = new byte[width * height];
+        if (width > 0 && height > 0) {
+            BufferedImage mask = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = mask.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            graphics.drawGlyphVector(vector, -bounds.x, -bounds.y);
+            graphics.dispose();
+            for (int i = 0; i < alpha.length; ++i) {
+                alpha[i] = (byte) (mask.getRGB(i % width, i / width) >>> 24);
+            }
+        }
+        return new Glyph((float) vector.getGlyphMetrics(0).getAdvance(), metrics.getAscent(), metrics.getDescent(),
+                -bounds.x, -bounds.y, width, height, alpha);
+    }
+}
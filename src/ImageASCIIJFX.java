@@ -6,46 +6,64 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.embed.swing.SwingFXUtils;
-import javafx.geometry.VPos;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.TextAlignment;
 
+import java.awt.Font;
+import java.awt.FontFormatException;
 import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 public class ImageASCIIJFX {
 
-    private static final int FONT_SIZE = 15;
+    static final int FONT_SIZE = 15;
     private static final double CHAR_SPACING_X = 10;
     private static final double CHAR_SPACING_Y = 15;
 
+    /**
+     * Fonts available for the representation, named after the full name of the font they load
+     * so that listing them does not load them
+     */
     public enum Fonts {
-        SYSTEM_DEFAULT(Font.getDefault()),
-        MAJOR_MONO_DISPLAY(loadFont("/MajorMonoDisplay-Regular.ttf")),
-        DEJA_VU(new Font("DejaVu Sans Mono", FONT_SIZE)),
-        OXYGEN(loadFont("/OxygenMono-Regular.ttf")),
-        ROBOTO(loadFont("/RobotoMono-Regular.ttf"));
+        SYSTEM_DEFAULT("System Regular", () -> new Font(Font.DIALOG, Font.PLAIN, FONT_SIZE)),
+        MAJOR_MONO_DISPLAY("Major Mono Display Regular", () -> loadFont("/MajorMonoDisplay-Regular.ttf")),
+        DEJA_VU("DejaVu Sans Mono", () -> new Font("DejaVu Sans Mono", Font.PLAIN, FONT_SIZE)),
+        OXYGEN("Oxygen Mono", () -> loadFont("/OxygenMono-Regular.ttf")),
+        ROBOTO("Roboto Mono Regular", () -> loadFont("/RobotoMono-Regular.ttf"));
 
         private final String name;
-        private final Font font;
+        private final Supplier<Font> loader;
+        private Font font;
 
-        Fonts(Font loadFont) {
-            this.name = loadFont.getName();
-            this.font = loadFont;
+        Fonts(String name, Supplier<Font> loader) {
+            this.name = name;
+            this.loader = loader;
         }
 
-        public Font getFont() {
+        /**
+         * Return the font, loading it on first use
+         *
+         * @return the font
+         */
+        public synchronized Font getFont() {
+            if (font == null) {
+                font = loader.get();
+            }
             return font;
         }
 
+        /**
+         * Return whether the font is loaded
+         *
+         * @return whether the font is loaded
+         */
+        synchronized boolean isLoaded() {
+            return font != null;
+        }
+
         @Override
         public String toString() {
             return name;
@@ -79,8 +97,10 @@ public class ImageASCIIJFX {
     }
 
     //MARK:- CONSTANTS
-    private final static int IMAGE_TYPE = BufferedImage.TYPE_BYTE_GRAY;
-    private final static double MIN_RGB_VALUE = -Math.pow(2, 24), MAX_RGB_VALUE = 0;
+    /**
+     * Glyphs drawn by every ImageASCIIJFX
+     */
+    public final static GlyphCache GLYPHS = new GlyphCache();
 
     //MARK:- ATTRIBUTES
     private final IntegerProperty height = new SimpleIntegerProperty(100);
@@ -95,115 +115,134 @@ public class ImageASCIIJFX {
     private final ObjectProperty<Fonts> usedFont = new SimpleObjectProperty<>(Fonts.DEJA_VU);
     private final ObjectProperty<Color> backgroundColor = new SimpleObjectProperty<>(Color.WHITE);
     private final ObjectBinding<BufferedImage> imageASCII;
-    private final ObjectBinding<Integer[][]> RGBValues;
-    private final ObjectBinding<Character[][]> charValues;
+    private final ObjectBinding<ASCIIGrid> grid;
     private final ObjectBinding<Character[]> usedScaleChar;
 
-    private final Canvas canvas = new Canvas();
-    private final GraphicsContext ctx = canvas.getGraphicsContext2D();
-
     /**
      * Constructor of ImageASCII from a buffered Image
      */
     public ImageASCIIJFX() {
-        ctx.setTextBaseline(VPos.CENTER);
-        ctx.setTextAlign(TextAlignment.CENTER);
-
         usedScaleChar = Bindings.createObjectBinding(() -> isOnDarkBackground() ? reverse(getSelectedScaleChar().getScale()) : getSelectedScaleChar().getScale(), backgroundColor, onDarkBackground, selectedScaleChar);
 
-        RGBValues  = Bindings.createObjectBinding(() -> getRGBValues(new GrayScaleImage(resize(imageRef.get()))), height, width, pageHeight, pageWidth, usedScaleChar, usedFont, imageRef);
-        charValues = Bindings.createObjectBinding(() -> getCharArray(RGBValues.get()), RGBValues);
-        imageASCII = Bindings.createObjectBinding(this::getRepresentation, charValues, imageRef);
+        grid       = Bindings.createObjectBinding(() -> ASCIIConverter.convert(imageRef.get(), getWidth(), getHeight(), getUsedScaleChar(), isOnDarkBackground())
+                .withPage(getPageWidth(), getPageHeight(), toARGB(getBackgroundColor()), getUsedFont().name()), height, width, pageHeight, pageWidth, usedScaleChar, usedFont, imageRef);
+        imageASCII = Bindings.createObjectBinding(this::getRepresentation, grid, imageRef);
     }
 
     /**
-     * Return an 2D array of the RGB values of the image's pixel matrix
+     * Return an image of the ImageASCII
      *
-     * @param image the reference image
-     * @return an 2D array of the RGB values of the image's pixel matrix
+     * @return an image of the ImageASCII
      */
-    private Integer[][] getRGBValues(BufferedImage image) {
-        Integer[][] result = new Integer[image.getHeight()][image.getWidth()];
-
-        for (int r = 0; r < image.getHeight(); ++r) {
-            for (int c = 0; c < image.getWidth(); ++c) {
-                result[r][c] = image.getRGB(c, r);
-            }
-        }
-        return result;
+    private BufferedImage getRepresentation() {
+        return getImageRef() != null ? render(grid.get()) : null;
     }
 
     /**
-     * Return a representation of a RGB values table in ASCII
+     * Return an image of a grid, drawn on the page stored in the grid. A page without dimensions is fitted
+     * to the grid, and a page without font uses the font of the ImageASCII.
+     * <p>
+     * Each character is centered on its cell, drawn from the glyphs of {@link #GLYPHS}
      *
-     * @param RGBArray the array to represent
-     * @return the representation of the array with associated RGB values
+     * @param grid the grid to draw
+     * @return an image of the grid
      */
-    private Character[][] getCharArray(Integer[][] RGBArray) {
-        int height = RGBArray.length;
-        int width = height != 0 ? RGBArray[0].length : 0;
+    public BufferedImage render(ASCIIGrid grid) {
+        int pageWidth  = grid.getPageWidth()  != 0 ? grid.getPageWidth()  : (int) Math.ceil((grid.getWidth()  + 2) * CHAR_SPACING_X);
+        int pageHeight = grid.getPageHeight() != 0 ? grid.getPageHeight() : (int) Math.ceil((grid.getHeight() + 4) * CHAR_SPACING_Y);
+        Fonts font = getFont(grid);
+        int textGray = grid.isOnDarkBackground() ? 255 : 0;
+
+        BufferedImage image = new BufferedImage(pageWidth, pageHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        if (grid.getBackgroundColor() >>> 24 != 255) {
+            graphics.setColor(java.awt.Color.WHITE);
+            graphics.fillRect(0, 0, pageWidth, pageHeight);
+        }
+        graphics.setColor(new java.awt.Color(grid.getBackgroundColor(), true));
+        graphics.fillRect(0, 0, pageWidth, pageHeight);
 
-        Character[][] result = new Character[RGBArray.length][width];
+        double deltaY = (pageHeight - grid.getHeight() * CHAR_SPACING_Y) / 2;
+        double deltaX = (pageWidth  - grid.getWidth()  * CHAR_SPACING_X) / 2;
 
-        for (int r = 0; r < height; ++r) {
-            for (int c = 0; c < width; ++c) {
-                int index = (int) Math.round(map(RGBArray[r][c], MIN_RGB_VALUE, MAX_RGB_VALUE, 0, usedScaleChar.get().length - 1));
-                result[r][c] = usedScaleChar.get()[index];
+        drawText(graphics, font, "Scale used : " + Arrays.toString(grid.getScale()), textGray, pageWidth/2.0, deltaY - CHAR_SPACING_Y);
+
+        // glyphs of the scale, and their images by gray resolved once per render
+        Character[] scale = grid.getScale();
+        GlyphCache.Glyph[] glyphs = new GlyphCache.Glyph[scale.length];
+        BufferedImage[][] images = new BufferedImage[scale.length][256];
+        for (int k = 0; k < scale.length; ++k) {
+            glyphs[k] = GLYPHS.getGlyph(font, FONT_SIZE, scale[k]);
+        }
+
+        for (int i = 0; i < grid.getHeight(); ++i) {
+            for (int j = 0; j < grid.getWidth(); ++j) {
+                int index = grid.getIndex(i, j);
+                int gray = grid.hasGrayPlane() ? grid.getGray(i, j) : textGray;
+                GlyphCache.Glyph glyph = glyphs[index];
+                if (glyph.isBlank()) {
+                    continue;
+                }
+                if (images[index][gray] == null) {
+                    images[index][gray] = glyph.getImage(gray);
+                }
+                glyph.draw(graphics, images[index][gray], j * CHAR_SPACING_X + deltaX - glyph.getAdvance() / 2,
+                        baseline(glyph, i * CHAR_SPACING_Y + deltaY));
             }
         }
-        return result;
+        graphics.dispose();
+
+        return image;
     }
 
     /**
-     * Resize an image to the height/width dimension of the ImageASCII
+     * Draw a line of text centered on a point
      *
-     * @param image the reference image
-     * @return the resized image
+     * @param graphics the graphics to draw on
+     * @param font     the font of the text
+     * @param text     the text to draw
+     * @param gray     the gray intensity of the text
+     * @param x        the x coordinate of the center of the text
+     * @param y        the y coordinate of the center of the text
      */
-    private BufferedImage resize(BufferedImage image) {
-        Image resizedImage = image.getScaledInstance(getWidth(), getHeight(), Image.SCALE_SMOOTH);
-        BufferedImage bufferedImage = new BufferedImage(getWidth(), getHeight(), IMAGE_TYPE);
-        Graphics2D graphics = bufferedImage.createGraphics();
-        graphics.drawImage(resizedImage, 0, 0, null);
-        graphics.dispose();
-
-        return bufferedImage;
+    private static void drawText(Graphics2D graphics, Fonts font, String text, int gray, double x, double y) {
+        GlyphCache.Glyph[] glyphs = new GlyphCache.Glyph[text.length()];
+        double width = 0;
+        for (int k = 0; k < glyphs.length; ++k) {
+            glyphs[k] = GLYPHS.getGlyph(font, FONT_SIZE, text.charAt(k));
+            width += glyphs[k].getAdvance();
+        }
+        double penX = x - width / 2;
+        for (GlyphCache.Glyph glyph : glyphs) {
+            glyph.draw(graphics, glyph.getImage(gray), penX, baseline(glyph, y));
+            penX += glyph.getAdvance();
+        }
     }
 
     /**
-     * Return an image of the ImageASCII
+     * Return the baseline of a glyph vertically centered on a point
      *
-     * @return an image of the ImageASCII
+     * @param glyph the glyph
+     * @param y     the y coordinate of the center of the glyph line
+     * @return the y coordinate of the baseline
      */
-    private BufferedImage getRepresentation() {
-        ctx.setFont(getUsedFont().getFont());
-        ctx.clearRect(0, 0, getPageWidth(), getPageHeight());
-
-        getHeight();
-        getWidth();
-
-        if (getImageRef() != null) {
-            canvas.setHeight(getPageHeight());
-            canvas.setWidth(getPageWidth());
-            ctx.setFill(getBackgroundColor());
-            ctx.fillRect(0, 0, getPageWidth(), getPageHeight());
-            ctx.setFill(isOnDarkBackground() ? Color.WHITE : Color.BLACK);
-
-            double deltaY = (getPageHeight() - charValues.get().length * CHAR_SPACING_Y) / 2;
-            double deltaX = (getPageWidth()  - charValues.get()[0].length * CHAR_SPACING_X) / 2;
-
-            ctx.fillText("Scale used : " + Arrays.toString(getUsedScaleChar()), getPageWidth()/2.0, deltaY - CHAR_SPACING_Y);
+    private static double baseline(GlyphCache.Glyph glyph, double y) {
+        return y + (glyph.getAscent() - glyph.getDescent()) / 2;
+    }
 
-            for (int i = 0; i < charValues.get().length; ++i) {
-                for (int j = 0; j < charValues.get()[i].length; ++j) {
-                    ctx.setFill(Color.grayRgb(RGBValues.get()[i][j] & 255));
-                    ctx.fillText(String.valueOf(charValues.get()[i][j]), j * CHAR_SPACING_X + deltaX, i * CHAR_SPACING_Y + deltaY);
-                }
+    /**
+     * Return the font stored in a grid, or the font of the ImageASCII if the grid has none or an unknown one
+     *
+     * @param grid the grid to draw
+     * @return the font to draw the grid with
+     */
+    private Fonts getFont(ASCIIGrid grid) {
+        for (Fonts font : Fonts.values()) {
+            if (font.name().equals(grid.getFont())) {
+                return font;
             }
-
-            return SwingFXUtils.fromFXImage(canvas.snapshot(null, null), null);
         }
-        return null;
+        return getUsedFont();
     }
 
     /**
@@ -213,14 +252,7 @@ public class ImageASCIIJFX {
      */
     @Override
     public String toString() {
-        StringBuilder stringBuilder = new StringBuilder("Scale used: ").append(Arrays.toString(getUsedScaleChar())).append("\n");
-        for (Character[] chars : charValues.get()) {
-            for (char c : chars) {
-                stringBuilder.append(c);
-            }
-            stringBuilder.append('\n');
-        }
-        return stringBuilder.toString();
+        return grid.get().toString();
     }
 
     public int getHeight() {
@@ -303,6 +335,14 @@ public class ImageASCIIJFX {
         return imageASCII;
     }
 
+    public ASCIIGrid getGrid() {
+        return grid.get();
+    }
+
+    public ObjectBinding<ASCIIGrid> gridProperty() {
+        return grid;
+    }
+
     public Character[] getUsedScaleChar() {
         return usedScaleChar.get();
     }
@@ -349,24 +389,6 @@ public class ImageASCIIJFX {
 
 //MARK:- TOOLS
 
-    /**
-     * Map a number from a scale to another scale
-     *
-     * @param number      the number to scale
-     * @param firstLow    the lower bound of the first interval
-     * @param firstUpper  the upper bound of the first interval
-     * @param secondLow   the lower bound of the second interval
-     * @param secondUpper the upper bound of the second interval
-     * @return the mapped number
-     */
-    private double map(double number, double firstLow, double firstUpper, double secondLow, double secondUpper) {
-        if ((firstLow > firstUpper) || (secondLow > secondUpper) || !(firstLow <= number && number <= firstUpper)) {
-            throw new IllegalArgumentException();
-        }
-        double ratio = (number - firstLow) / (firstUpper - firstLow);
-        return ratio * (secondUpper - secondLow) + secondLow;
-    }
-
     /**
      * Reverse an array
      *
@@ -381,17 +403,30 @@ public class ImageASCIIJFX {
         return tmp;
     }
 
+    /**
+     * Return the ARGB value of a color
+     *
+     * @param color the color
+     * @return the ARGB value of the color
+     */
+    private static int toARGB(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24
+                | (int) Math.round(color.getRed()   * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue()  * 255);
+    }
+
     /**
      * Load font used for special characters
      * @return a font used for special characters
      */
     private static Font loadFont(String path) {
         try (InputStream fontStream = Main.class.getResourceAsStream(path)) {
-            return Font.loadFont(fontStream, FONT_SIZE);
-        } catch (IOException e) {
+            return Font.createFont(Font.TRUETYPE_FONT, fontStream).deriveFont((float) FONT_SIZE);
+        } catch (IOException | FontFormatException e) {
             e.printStackTrace();
         }
 
-        return Font.getDefault();
+        return new Font(Font.DIALOG, Font.PLAIN, FONT_SIZE);
     }
 }
@@ -28,6 +28,8 @@ import javafx.util.converter.NumberStringConverter;
 
 import javax.imageio.ImageIO;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -38,11 +40,16 @@ public class Main extends Application {
     private static final String TITLE = "ASCII art";
     private static final String AWESOME_FONT_PATH = "/Font Awesome 5 Free-Solid-900.otf";
     private static final String STYLE_PATH = "/style/stylesheet.css";
+    private static final String GRID_EXTENSION = ".aag";
+    private static final String GLYPH_CACHE_PROPERTY = "glyph.cache";
     private static final int STAGE_WIDTH = 800;
     private static final int STAGE_HEIGHT = 800;
-    private static final Font AWESOME_FONT = loadFont();
 
     private static final FileChooser fileChooser = new FileChooser();
+    private static final FileChooser.ExtensionFilter IMAGE_FILTER = new FileChooser.ExtensionFilter("Image Files", "*.png", "*.jpg", "*.jpeg", "*.gif");
+    private static final FileChooser.ExtensionFilter ALL_FILTER = new FileChooser.ExtensionFilter("All Files", "*.*");
+    private static final FileChooser.ExtensionFilter PNG_FILTER = new FileChooser.ExtensionFilter("PNG image", "*.png");
+    private static final FileChooser.ExtensionFilter GRID_FILTER = new FileChooser.ExtensionFilter("ASCII grid", "*" + GRID_EXTENSION);
     private final ImageASCIIJFX imageASCIIJFX = new ImageASCIIJFX();
     private final ObjectProperty<Image> imageRefProperty = new SimpleObjectProperty<>();
     private final ObjectProperty<Image> imageASCIIProperty = new SimpleObjectProperty<>();
@@ -61,12 +68,7 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) {
         this.stage = primaryStage;
-
-        //file extension openable
-        fileChooser.getExtensionFilters().addAll(
-                new FileChooser.ExtensionFilter("Image Files", "*.png", "*.jpg", "*.jpeg", "*.gif"),
-                new FileChooser.ExtensionFilter("All Files", "*.*")
-        );
+        loadGlyphCache();
 
         imageASCIIJFX.widthProperty().bind(widthProperty);
         imageASCIIJFX.heightProperty().bind(heightProperty);
@@ -100,6 +102,11 @@ public class Main extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        saveGlyphCache();
+    }
+
     /**
      * return control bar with all parameter's textfield and button
      * @return control bar with all parameter's textfield and buttons
@@ -110,6 +117,8 @@ public class Main extends Application {
         openButton.getStyleClass().add("open-export-button");
         openButton.setOnAction(event -> {
             fileChooser.setTitle("Open Resource image");
+            //file extension openable
+            fileChooser.getExtensionFilters().setAll(IMAGE_FILTER, ALL_FILTER);
             File selectedFile = fileChooser.showOpenDialog(this.stage);
             if (selectedFile != null) {
                 openFile(selectedFile);
@@ -121,15 +130,17 @@ public class Main extends Application {
         exportButton.getStyleClass().add("open-export-button");
         exportButton.setOnAction(event -> {
             fileChooser.setTitle("Export image");
+            //file extension exportable
+            fileChooser.getExtensionFilters().setAll(PNG_FILTER, GRID_FILTER);
             File selectedFile = fileChooser.showSaveDialog(this.stage);
             if (selectedFile != null) {
-                saveFile(selectedFile);
+                saveFile(selectedFile, fileChooser.getSelectedExtensionFilter() == GRID_FILTER);
             }
         });
 
         //DARK BACKGROUND SWITCH BUTTON
         Button switchDarkBackgroundButton = new Button("\uf042");
-        switchDarkBackgroundButton.setFont(AWESOME_FONT);
+        switchDarkBackgroundButton.setFont(loadFont());
         switchDarkBackgroundButton.setOnAction(event -> {
             switchDarkBackgroundButton.getStyleClass().set(2, imageASCIIJFX.isOnDarkBackground() ? "white-switch-button" : "black-switch-button");
             imageASCIIJFX.setOnDarkBackground(!imageASCIIJFX.isOnDarkBackground());
@@ -234,10 +245,23 @@ public class Main extends Application {
     }
 
     /**
-     * Save an image
+     * Save an image, or its ASCII grid if the grid filter is selected or the file has the grid extension
      * @param file the file with the image to save
+     * @param asGrid whether the grid filter is selected
      */
-    private void saveFile(File file) {
+    private void saveFile(File file, boolean asGrid) {
+        if (asGrid || file.getName().endsWith(GRID_EXTENSION)) {
+            if (!file.getName().endsWith(GRID_EXTENSION)) {
+                file = new File(file.getPath() + GRID_EXTENSION);
+            }
+            try (ASCIIGridWriter writer = new ASCIIGridWriter(new FileOutputStream(file))) {
+                writer.write(imageASCIIJFX.getGrid());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         try {
             ImageIO.write(SwingFXUtils.fromFXImage(imageASCIIProperty.get(), null), "png", file);
         } catch (IOException e) {
@@ -245,6 +269,36 @@ public class Main extends Application {
         }
     }
 
+    /**
+     * Load the glyphs saved by a previous run, if the glyph.cache system property names a cache file
+     */
+    private static void loadGlyphCache() {
+        String path = System.getProperty(GLYPH_CACHE_PROPERTY);
+        if (path == null || !new File(path).isFile()) {
+            return;
+        }
+        try (InputStream in = new FileInputStream(path)) {
+            ImageASCIIJFX.GLYPHS.load(in);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Save the glyphs drawn by this run, if the glyph.cache system property names a cache file
+     */
+    private static void saveGlyphCache() {
+        String path = System.getProperty(GLYPH_CACHE_PROPERTY);
+        if (path == null) {
+            return;
+        }
+        try (FileOutputStream out = new FileOutputStream(path)) {
+            ImageASCIIJFX.GLYPHS.save(out);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Load font used for special characters
      * @return a font used for special characters
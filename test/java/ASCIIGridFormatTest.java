@@ -0,0 +1,229 @@
+import com.sun.management.ThreadMXBean;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author noe
+ * <p>
+ * Binary ASCII grid format written by ASCIIGridWriter and read by ASCIIGridReader
+ */
+class ASCIIGridFormatTest {
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void gridsAreReadAsWritten() throws IOException {
+        BufferedImage image = TestImages.corpus().get("shapes");
+        ASCIIGrid withGrays = ASCIIConverter.convert(image, 100, 60, ImageASCIIJFX.Scales.ALPHABET.getScale(), true)
+                .withPage(1200, 900, 0xFF2040A0, ImageASCIIJFX.Fonts.ROBOTO.name());
+        ASCIIGrid withoutGrays = new ASCIIGrid(withGrays.getScale(), indices(withGrays), null, false);
+        ASCIIGrid empty = new ASCIIGrid(new Character[]{' '}, new int[0][0], null, false);
+
+        List<ASCIIGrid> read = readAll(writeAll(withGrays, withoutGrays, empty));
+
+        assertEquals(3, read.size());
+        assertSameGrid(withGrays, read.get(0));
+        assertSameGrid(withoutGrays, read.get(1));
+        assertSameGrid(empty, read.get(2));
+    }
+
+    @Test
+    void indicesNotDerivedFromGraysAreKept() throws IOException {
+        ASCIIGrid grid = new ASCIIGrid(new Character[]{'a', 'b', 'c'}, new int[][]{{0, 1, 2}}, new int[][]{{255, 255, 255}}, false);
+
+        assertSameGrid(grid, readAll(writeAll(grid)).get(0));
+    }
+
+    @Test
+    void formatIsSmallerThanText() throws IOException {
+        BufferedImage image = halfNoise(400, 400);
+        for (ImageASCIIJFX.Scales scale : ImageASCIIJFX.Scales.values()) {
+            ASCIIGrid grid = ASCIIConverter.convert(image, 100, 100, scale.getScale(), false);
+            int text = grid.toString().getBytes(StandardCharsets.UTF_8).length;
+
+            int withGrays = writeAll(grid).length;
+            int withoutGrays = writeAll(new ASCIIGrid(grid.getScale(), indices(grid), null, false)).length;
+
+            assertTrue(withGrays < text * 0.6, scale + ": " + withGrays + " bytes with grays for " + text + " bytes of text");
+            assertTrue(withoutGrays < text * 0.3, scale + ": " + withoutGrays + " bytes without grays for " + text + " bytes of text");
+        }
+    }
+
+    @Test
+    void exportedGridKeepsItsPage() {
+        ImageASCIIJFX imageASCII = new ImageASCIIJFX();
+        imageASCII.setWidth(10);
+        imageASCII.setHeight(5);
+        imageASCII.setPageWidth(640);
+        imageASCII.setPageHeight(480);
+        imageASCII.setBackgroundColor(Color.rgb(40, 90, 160));
+        imageASCII.setUsedFont(ImageASCIIJFX.Fonts.OXYGEN);
+        imageASCII.setImageRef(TestImages.gradient(50, 50));
+
+        ASCIIGrid grid = imageASCII.getGrid();
+
+        assertEquals(640, grid.getPageWidth());
+        assertEquals(480, grid.getPageHeight());
+        assertEquals(0xFF285AA0, grid.getBackgroundColor());
+        assertEquals("OXYGEN", grid.getFont());
+    }
+
+    @Test
+    void corruptDimensionsAreRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ASCIIGridWriter.MAGIC);
+        out.writeByte(ASCIIGridWriter.GRID_MARKER);
+        out.writeInt(Integer.MAX_VALUE);
+        out.writeInt(Integer.MAX_VALUE);
+        out.writeByte(ASCIIGridWriter.FLAG_INDEX_PLANE);
+
+        IOException e = assertThrows(IOException.class, () -> readAll(bytes.toByteArray()));
+        assertEquals("Malformed ASCII grid dimensions", e.getMessage());
+    }
+
+    @Test
+    void forgedDimensionsDoNotAllocateTheGrid() throws IOException {
+        for (int planes : new int[]{ASCIIGridWriter.FLAG_INDEX_PLANE, ASCIIGridWriter.FLAG_GRAY_PLANE}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(ASCIIGridWriter.MAGIC);
+            out.writeByte(ASCIIGridWriter.GRID_MARKER);
+            out.writeInt(ASCIIGrid.MAX_DIMENSION - 1);
+            out.writeInt(ASCIIGrid.MAX_DIMENSION - 1);
+            out.writeByte(planes);
+            out.writeByte(1);
+            out.writeChar('#');
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(ASCIIGrid.DEFAULT_BACKGROUND_COLOR);
+            out.writeUTF("");
+
+            long allocated = allocatedBytes(() -> assertThrows(IOException.class, () -> readAll(bytes.toByteArray())));
+
+            assertTrue(allocated < 1_000_000, allocated + " bytes allocated to read a " + bytes.size() + " bytes grid");
+        }
+    }
+
+    @Test
+    void truncatedStreamIsRejected() throws IOException {
+        byte[] bytes = writeAll(ASCIIConverter.convert(TestImages.noise(100, 100, 1), 40, 20, ImageASCIIJFX.Scales.STANDARD.getScale(), false));
+
+        assertThrows(IOException.class, () -> readAll(Arrays.copyOf(bytes, bytes.length - 10)));
+    }
+
+    @Test
+    void derivedIndicesAreTheConverterIndices() {
+        for (ImageASCIIJFX.Scales scale : ImageASCIIJFX.Scales.values()) {
+            ASCIIGrid grid = ASCIIConverter.convert(TestImages.gradient(256, 16), 256, 16, scale.getScale(), false);
+            for (int r = 0; r < grid.getHeight(); ++r) {
+                for (int c = 0; c < grid.getWidth(); ++c) {
+                    assertEquals(grid.getIndex(r, c), ASCIIGridWriter.derivedIndex(grid.getGray(r, c), scale.getScale().length), scale + " at (" + r + ", " + c + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    void withPageSharesThePlanes() {
+        ASCIIGrid grid = ASCIIConverter.convert(TestImages.noise(400, 400, 3), 400, 400, ImageASCIIJFX.Scales.STANDARD.getScale(), false);
+        grid.withPage(100, 100, ASCIIGrid.DEFAULT_BACKGROUND_COLOR, null);
+
+        long allocated = allocatedBytes(() -> grid.withPage(200, 200, ASCIIGrid.DEFAULT_BACKGROUND_COLOR, null));
+
+        assertTrue(allocated < 1_000, allocated + " bytes allocated by withPage");
+    }
+
+    @Test
+    void gridIsValidatedAndCopied() {
+        assertThrows(IllegalArgumentException.class, () -> new ASCIIGrid(new Character[]{'a'}, new int[2][2], new int[1][2], false));
+
+        int[][] indices = {{0}};
+        ASCIIGrid grid = new ASCIIGrid(new Character[]{'a', 'b'}, indices, null, false);
+        indices[0][0] = 1;
+        assertEquals(0, grid.getIndex(0, 0));
+    }
+
+    private static BufferedImage halfNoise(int width, int height) {
+        BufferedImage image = TestImages.noise(width, height, 7);
+        for (int r = 0; r < height; ++r) {
+            for (int c = width / 2; c < width; ++c) {
+                int gray = 255 * r / height;
+                image.setRGB(c, r, gray << 16 | gray << 8 | gray);
+            }
+        }
+        return image;
+    }
+
+    private static long allocatedBytes(Runnable task) {
+        long thread = Thread.currentThread().getId();
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        long bytes = THREADS.getThreadAllocatedBytes(thread);
+        task.run();
+        return THREADS.getThreadAllocatedBytes(thread) - bytes;
+    }
+
+    private static byte[] writeAll(ASCIIGrid... grids) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ASCIIGridWriter writer = new ASCIIGridWriter(bytes)) {
+            for (ASCIIGrid grid : grids) {
+                writer.write(grid);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<ASCIIGrid> readAll(byte[] bytes) throws IOException {
+        List<ASCIIGrid> grids = new ArrayList<>();
+        try (ASCIIGridReader reader = new ASCIIGridReader(new ByteArrayInputStream(bytes))) {
+            ASCIIGrid grid;
+            while ((grid = reader.read()) != null) {
+                grids.add(grid);
+            }
+        }
+        return grids;
+    }
+
+    private static int[][] indices(ASCIIGrid grid) {
+        int[][] indices = new int[grid.getHeight()][grid.getWidth()];
+        for (int r = 0; r < grid.getHeight(); ++r) {
+            for (int c = 0; c < grid.getWidth(); ++c) {
+                indices[r][c] = grid.getIndex(r, c);
+            }
+        }
+        return indices;
+    }
+
+    private static void assertSameGrid(ASCIIGrid expected, ASCIIGrid actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertArrayEquals(expected.getScale(), actual.getScale());
+        assertArrayEquals(indices(expected), indices(actual));
+        assertEquals(expected.hasGrayPlane(), actual.hasGrayPlane());
+        for (int r = 0; expected.hasGrayPlane() && r < expected.getHeight(); ++r) {
+            for (int c = 0; c < expected.getWidth(); ++c) {
+                assertEquals(expected.getGray(r, c), actual.getGray(r, c));
+            }
+        }
+        assertEquals(expected.isOnDarkBackground(), actual.isOnDarkBackground());
+        assertEquals(expected.getPageWidth(), actual.getPageWidth());
+        assertEquals(expected.getPageHeight(), actual.getPageHeight());
+        assertEquals(expected.getBackgroundColor(), actual.getBackgroundColor());
+        assertEquals(expected.getFont(), actual.getFont());
+    }
+}
@@ -0,0 +1,63 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * @author noe
+ * <p>
+ * Cold start of the headless path, meant to run in a fresh JVM: time from the JVM start to the text output of
+ * a first render, printed as {@code coldStart <ms>}, and number of fonts loaded by then, printed as
+ * {@code fontsLoaded <count>}.
+ * <p>
+ * With {@code --all-fonts}, every font is loaded before the render, as the Fonts enum did before loading
+ * them lazily. With {@code --glyph-cache <file>}, the first render is a PNG drawn with the glyphs of the
+ * cache file, if it exists, and the glyphs are saved to it afterwards
+ */
+public class ColdStartProbe {
+
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime();
+        long jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        File glyphCache = args.length == 2 && args[0].equals("--glyph-cache") ? new File(args[1]) : null;
+
+        if (args.length > 0 && args[0].equals("--all-fonts")) {
+            for (ImageASCIIJFX.Fonts font : ImageASCIIJFX.Fonts.values()) {
+                font.getFont();
+            }
+        }
+        if (glyphCache != null && glyphCache.isFile()) {
+            try (InputStream in = new FileInputStream(glyphCache)) {
+                ImageASCIIJFX.GLYPHS.load(in);
+            }
+        }
+
+        BufferedImage image = TestImages.gradient(320, 240);
+        ImageASCIIJFX imageASCII = new ImageASCIIJFX();
+        imageASCII.setImageRef(image);
+        String output = glyphCache != null
+                ? imageASCII.getImageASCII().getWidth() + "x" + imageASCII.getImageASCII().getHeight() + " px"
+                : imageASCII.toString().length() + " chars";
+
+        double renderMillis = (System.nanoTime() - start) / 1e6;
+        long coldStartMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        int fontsLoaded = 0;
+        for (ImageASCIIJFX.Fonts font : ImageASCIIJFX.Fonts.values()) {
+            fontsLoaded += font.isLoaded() ? 1 : 0;
+        }
+
+        if (glyphCache != null) {
+            try (OutputStream out = new FileOutputStream(glyphCache)) {
+                ImageASCIIJFX.GLYPHS.save(out);
+            }
+        }
+        System.out.printf("jvm %d%n", jvmMillis);
+        System.out.printf("render %.1f (%s)%n", renderMillis, output);
+        System.out.printf("coldStart %d%n", coldStartMillis);
+        System.out.printf("fontsLoaded %d%n", fontsLoaded);
+    }
+}
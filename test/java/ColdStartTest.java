@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author noe
+ * <p>
+ * Cold start of the headless path in a fresh JVM, against the coldStart budget of budgets.properties, and fonts
+ * it loads
+ */
+class ColdStartTest {
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    @Test
+    void coldStartStaysInBudget() throws Exception {
+        Properties budgets = new Properties();
+        try (InputStream stream = ColdStartTest.class.getResourceAsStream("/budgets.properties")) {
+            budgets.load(stream);
+        }
+        long maxMillis = Long.parseLong(budgets.getProperty("coldStart.maxMillis"));
+
+        long coldStart = probe().get("coldStart");
+
+        assertTrue(coldStart <= maxMillis, "Cold start took " + coldStart + " ms, budget is " + maxMillis + " ms");
+    }
+
+    @Test
+    void textOutputLoadsNoFont() throws Exception {
+        assertEquals(0, probe().get("fontsLoaded"), "Fonts loaded for a text output");
+    }
+
+    @Test
+    void savedGlyphsAreDrawnWithoutLoadingTheFont(@TempDir Path directory) throws Exception {
+        String glyphCache = directory.resolve("glyphs.cache").toString();
+
+        assertEquals(1, probe("--glyph-cache", glyphCache).get("fontsLoaded"), "Fonts loaded for a first PNG output");
+        assertEquals(0, probe("--glyph-cache", glyphCache).get("fontsLoaded"), "Fonts loaded for a PNG output with saved glyphs");
+    }
+
+    /**
+     * Run ColdStartProbe in a fresh JVM
+     *
+     * @param args the arguments of the probe
+     * @return the numbers printed by the probe, by name
+     */
+    private static Map<String, Long> probe(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                "-Djava.awt.headless=true",
+                "ColdStartProbe"));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        Map<String, Long> values = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                System.out.println("ColdStartProbe: " + line);
+                String[] parts = line.split(" ");
+                if (parts.length == 2 && parts[1].matches("\\d+")) {
+                    values.put(parts[0], Long.parseLong(parts[1]));
+                }
+            }
+        }
+        assertTrue(process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS), "ColdStartProbe did not finish");
+        assertEquals(0, process.exitValue(), "ColdStartProbe failed");
+        assertTrue(values.containsKey("coldStart") && values.containsKey("fontsLoaded"), "ColdStartProbe did not report its cold start");
+        return values;
+    }
+}
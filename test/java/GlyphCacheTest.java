@@ -0,0 +1,105 @@
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author noe
+ * <p>
+ * Glyphs rasterized and saved by GlyphCache
+ */
+class GlyphCacheTest {
+
+    private static final ImageASCIIJFX.Fonts FONT = ImageASCIIJFX.Fonts.ROBOTO;
+    private static final int SIZE = ImageASCIIJFX.FONT_SIZE;
+
+    @Test
+    void glyphsAreRasterizedAndTintedOnce() {
+        GlyphCache cache = new GlyphCache();
+
+        GlyphCache.Glyph glyph = cache.getGlyph(FONT, SIZE, '#');
+
+        assertSame(glyph, cache.getGlyph(FONT, SIZE, '#'));
+        assertSame(glyph.getImage(128), glyph.getImage(128));
+        assertTrue(glyph.getAdvance() > 0 && glyph.getAscent() > 0);
+        assertEquals(0x808080, glyph.getImage(128).getRGB(glyph.getImage(128).getWidth() / 2, glyph.getImage(128).getHeight() / 2) & 0xFFFFFF);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void blankGlyphsHaveNoImage() {
+        GlyphCache.Glyph space = new GlyphCache().getGlyph(FONT, SIZE, ' ');
+
+        assertTrue(space.isBlank());
+        assertNull(space.getImage(0));
+        assertTrue(space.getAdvance() > 0);
+    }
+
+    @Test
+    void savedGlyphsAreLoadedAsSaved() throws IOException {
+        GlyphCache cache = new GlyphCache();
+        for (char c : "#$o{+~:-. ".toCharArray()) {
+            cache.getGlyph(FONT, SIZE, c);
+            cache.getGlyph(ImageASCIIJFX.Fonts.OXYGEN, SIZE, c);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        cache.save(bytes);
+
+        GlyphCache loaded = new GlyphCache();
+        loaded.load(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(cache.size(), loaded.size());
+        for (char c : "#$o{+~:-.".toCharArray()) {
+            GlyphCache.Glyph expected = cache.getGlyph(FONT, SIZE, c);
+            GlyphCache.Glyph actual = loaded.getGlyph(FONT, SIZE, c);
+            assertEquals(expected.getAdvance(), actual.getAdvance());
+            assertEquals(expected.getAscent(), actual.getAscent());
+            assertEquals(expected.getDescent(), actual.getDescent());
+            assertSameImage(expected.getImage(0), actual.getImage(0));
+        }
+    }
+
+    @Test
+    void malformedCacheIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(GlyphCache.MAGIC);
+        out.writeInt(1);
+        out.writeUTF("ROBOTO/15");
+        out.writeInt(1);
+        out.writeChar('#');
+        out.writeFloat(9);
+        out.writeFloat(14);
+        out.writeFloat(4);
+        out.writeInt(0);
+        out.writeInt(10);
+        out.writeInt(Integer.MAX_VALUE);
+        out.writeInt(Integer.MAX_VALUE);
+
+        GlyphCache cache = new GlyphCache();
+        assertThrows(IOException.class, () -> cache.load(new ByteArrayInputStream(bytes.toByteArray())));
+        assertThrows(IOException.class, () -> cache.load(new ByteArrayInputStream(new byte[]{1, 2, 3, 4})));
+        assertEquals(0, cache.size());
+    }
+
+    private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int r = 0; r < expected.getHeight(); ++r) {
+            for (int c = 0; c < expected.getWidth(); ++c) {
+                assertEquals(expected.getRGB(c, r), actual.getRGB(c, r));
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author noe
+ * <p>
+ * Text output of every image of the corpus, for every scale on a light and a dark background
+ */
+class GoldenTextTest {
+
+    static final int WIDTH = 48;
+    static final int HEIGHT = 24;
+
+    static List<Arguments> renders() {
+        List<Arguments> renders = new ArrayList<>();
+        for (Map.Entry<String, BufferedImage> image : TestImages.corpus().entrySet()) {
+            for (ImageASCIIJFX.Scales scale : ImageASCIIJFX.Scales.values()) {
+                renders.add(Arguments.of(image.getKey(), image.getValue(), scale, false));
+                renders.add(Arguments.of(image.getKey(), image.getValue(), scale, true));
+            }
+        }
+        return renders;
+    }
+
+    @ParameterizedTest(name = "{0} {2} dark={3}")
+    @MethodSource("renders")
+    void textMatchesGolden(String name, BufferedImage image, ImageASCIIJFX.Scales scale, boolean onDarkBackground) throws IOException {
+        ImageASCIIJFX imageASCII = new ImageASCIIJFX();
+        imageASCII.setWidth(WIDTH);
+        imageASCII.setHeight(HEIGHT);
+        imageASCII.setSelectedScaleChar(scale);
+        imageASCII.setOnDarkBackground(onDarkBackground);
+        imageASCII.setImageRef(image);
+
+        Goldens.assertText("text/" + name + "/" + scale.name() + (onDarkBackground ? "-dark" : "-light") + ".txt", imageASCII.toString());
+    }
+}
@@ -0,0 +1,107 @@
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author noe
+ * <p>
+ * Golden outputs of the regression tests, stored under test/resources/golden.
+ * <p>
+ * Run {@code mvn test -Dgolden.update=true} to rewrite them from the current code, and review the diff before
+ * committing it.
+ */
+final class Goldens {
+
+    private static final Path ROOT = Paths.get("test", "resources", "golden");
+    private static final boolean UPDATE = Boolean.getBoolean("golden.update");
+
+    /**
+     * Maximum difference of a color channel for two pixels to be considered equal, below the step between
+     * two grays of the scales so that a glyph in light gray on a white page still counts
+     */
+    static final int CHANNEL_TOLERANCE = 8;
+
+    /**
+     * Maximum ratio of different pixels for two images to be considered equal, about the ink of one glyph
+     * on the render test page
+     */
+    static final double MAX_DIFFERENT_PIXELS = 0.001;
+
+    private Goldens() {}
+
+    /**
+     * Check a text against its golden file
+     *
+     * @param name   the path of the golden file, relative to the golden directory
+     * @param actual the text produced by the current code
+     * @throws IOException if the golden file can not be read or written
+     */
+    static void assertText(String name, String actual) throws IOException {
+        Path path = ROOT.resolve(name);
+        if (UPDATE) {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, actual, StandardCharsets.UTF_8);
+            return;
+        }
+        assertTrue(Files.exists(path), "Missing golden " + path + ", run mvn test -Dgolden.update=true");
+        assertEquals(Files.readString(path, StandardCharsets.UTF_8), actual, "Output differs from golden " + path);
+    }
+
+    /**
+     * Check an image against its golden PNG, with a per-pixel tolerance
+     *
+     * @param name   the path of the golden PNG, relative to the golden directory
+     * @param actual the image produced by the current code
+     * @throws IOException if the golden PNG can not be read or written
+     */
+    static void assertImage(String name, BufferedImage actual) throws IOException {
+        Path path = ROOT.resolve(name);
+        if (UPDATE) {
+            Files.createDirectories(path.getParent());
+            ImageIO.write(actual, "png", path.toFile());
+            return;
+        }
+        assertTrue(Files.exists(path), "Missing golden " + path + ", run mvn test -Dgolden.update=true");
+        assertSimilar(ImageIO.read(path.toFile()), actual, "golden " + path);
+    }
+
+    /**
+     * Check that two images have the same size and at most {@link #MAX_DIFFERENT_PIXELS} of pixels with
+     * a channel differing by more than {@link #CHANNEL_TOLERANCE}
+     *
+     * @param expected    the expected image
+     * @param actual      the actual image
+     * @param description the description of the expected image in failure messages
+     */
+    static void assertSimilar(BufferedImage expected, BufferedImage actual, String description) {
+        assertEquals(expected.getWidth(), actual.getWidth(), "Width differs from " + description);
+        assertEquals(expected.getHeight(), actual.getHeight(), "Height differs from " + description);
+
+        int different = 0;
+        for (int r = 0; r < expected.getHeight(); ++r) {
+            for (int c = 0; c < expected.getWidth(); ++c) {
+                if (channelDifference(expected.getRGB(c, r), actual.getRGB(c, r)) > CHANNEL_TOLERANCE) {
+                    ++different;
+                }
+            }
+        }
+        double ratio = (double) different / (expected.getWidth() * expected.getHeight());
+        assertTrue(ratio <= MAX_DIFFERENT_PIXELS,
+                String.format("%.2f%% of pixels differ from %s (max %.2f%%)", ratio * 100, description, MAX_DIFFERENT_PIXELS * 100));
+    }
+
+    private static int channelDifference(int argb1, int argb2) {
+        int max = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            max = Math.max(max, Math.abs((argb1 >>> shift & 255) - (argb2 >>> shift & 255)));
+        }
+        return max;
+    }
+}
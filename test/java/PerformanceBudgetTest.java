@@ -0,0 +1,134 @@
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author noe
+ * <p>
+ * Time and allocation budgets of a render of fixed inputs, read from budgets.properties.
+ * <p>
+ * Each step runs {@link #WARMUP_RUNS} times unmeasured, then {@link #MEASURED_RUNS} times: the median CPU time
+ * and the lowest allocated bytes of the measuring thread must stay under the budget of the step. CPU time leaves
+ * out the time the thread waits for the collector or for other processes
+ */
+class PerformanceBudgetTest {
+
+    static final int WARMUP_RUNS = 10;
+    static final int MEASURED_RUNS = 9;
+
+    static final int GRID_WIDTH = 200;
+    static final int GRID_HEIGHT = 100;
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final Properties BUDGETS = new Properties();
+
+    private static BufferedImage image;
+    private static ASCIIGrid grid;
+    private static byte[] gridBytes;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        try (InputStream stream = PerformanceBudgetTest.class.getResourceAsStream("/budgets.properties")) {
+            BUDGETS.load(stream);
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        image = TestImages.noise(1920, 1080, 42);
+        grid = ASCIIConverter.convert(image, GRID_WIDTH, GRID_HEIGHT, ImageASCIIJFX.Scales.STANDARD.getScale(), false)
+                .withPage(2200, 1700, ASCIIGrid.DEFAULT_BACKGROUND_COLOR, ImageASCIIJFX.Fonts.ROBOTO.name());
+        gridBytes = write(grid);
+    }
+
+    @Test
+    void convertStaysInBudget() throws Exception {
+        assertInBudget("convert", () -> ASCIIConverter.convert(image, GRID_WIDTH, GRID_HEIGHT, ImageASCIIJFX.Scales.STANDARD.getScale(), false));
+    }
+
+    @Test
+    void textStaysInBudget() throws Exception {
+        assertInBudget("text", grid::toString);
+    }
+
+    @Test
+    void writeStaysInBudget() throws Exception {
+        assertInBudget("write", () -> write(grid));
+    }
+
+    @Test
+    void readStaysInBudget() throws Exception {
+        assertInBudget("read", () -> {
+            try (ASCIIGridReader reader = new ASCIIGridReader(new ByteArrayInputStream(gridBytes))) {
+                return reader.read();
+            }
+        });
+    }
+
+    @Test
+    void renderStaysInBudget() throws Exception {
+        ImageASCIIJFX renderer = new ImageASCIIJFX();
+        assertInBudget("render", () -> renderer.render(grid));
+    }
+
+    /**
+     * Run a step and check its median time and lowest allocated bytes against its budget
+     *
+     * @param step the name of the step in budgets.properties
+     * @param task the step, measured on the calling thread
+     */
+    private static void assertInBudget(String step, Callable<?> task) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; ++i) {
+            measure(task);
+        }
+        long[] nanos = new long[MEASURED_RUNS];
+        long bytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; ++i) {
+            long[] run = measure(task);
+            nanos[i] = run[0];
+            bytes = Math.min(bytes, run[1]);
+        }
+        Arrays.sort(nanos);
+        double millis = nanos[MEASURED_RUNS / 2] / 1e6;
+
+        double maxMillis = Double.parseDouble(BUDGETS.getProperty(step + ".maxMillis"));
+        long maxBytes = Long.parseLong(BUDGETS.getProperty(step + ".maxBytes"));
+        System.out.printf("%s: %.1f ms (budget %.0f ms), %d bytes (budget %d bytes)%n", step, millis, maxMillis, bytes, maxBytes);
+
+        assertTrue(millis <= maxMillis, String.format("%s took %.1f ms, budget is %.0f ms", step, millis, maxMillis));
+        assertTrue(bytes <= maxBytes, String.format("%s allocated %d bytes, budget is %d bytes", step, bytes, maxBytes));
+    }
+
+    /**
+     * Run a task once on the calling thread
+     *
+     * @param task the task to run
+     * @return the CPU time (ns) and the bytes allocated by the task
+     */
+    private static long[] measure(Callable<?> task) throws Exception {
+        long thread = Thread.currentThread().getId();
+        long bytes = THREADS.getThreadAllocatedBytes(thread);
+        long start = THREADS.getCurrentThreadCpuTime();
+        task.call();
+        long nanos = THREADS.getCurrentThreadCpuTime() - start;
+        return new long[]{nanos, THREADS.getThreadAllocatedBytes(thread) - bytes};
+    }
+
+    private static byte[] write(ASCIIGrid grid) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ASCIIGridWriter writer = new ASCIIGridWriter(bytes)) {
+            writer.write(grid);
+        }
+        return bytes.toByteArray();
+    }
+}
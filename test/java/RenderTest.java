@@ -0,0 +1,87 @@
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author noe
+ * <p>
+ * Rendered PNG of the images of the corpus, compared with a per-pixel tolerance.
+ * <p>
+ * The renders use a bundled font, so that they do not depend on the fonts installed on the machine
+ */
+class RenderTest {
+
+    static final int PAGE_WIDTH = 520;
+    static final int PAGE_HEIGHT = 420;
+    static final ImageASCIIJFX.Fonts FONT = ImageASCIIJFX.Fonts.ROBOTO;
+
+    static List<Arguments> renders() {
+        List<Arguments> renders = new ArrayList<>();
+        for (Map.Entry<String, BufferedImage> image : TestImages.corpus().entrySet()) {
+            renders.add(Arguments.of(image.getKey(), image.getValue(), false));
+            renders.add(Arguments.of(image.getKey(), image.getValue(), true));
+        }
+        return renders;
+    }
+
+    @ParameterizedTest(name = "{0} dark={2}")
+    @MethodSource("renders")
+    void renderMatchesGolden(String name, BufferedImage image, boolean onDarkBackground) throws Exception {
+        BufferedImage render = imageASCII(image, onDarkBackground, Color.WHITE).getImageASCII();
+
+        Goldens.assertImage("png/" + name + (onDarkBackground ? "-dark" : "-light") + ".png", render);
+    }
+
+    @ParameterizedTest(name = "{0} dark={2}")
+    @MethodSource("renders")
+    void gridRenderMatchesExportedRender(String name, BufferedImage image, boolean onDarkBackground) throws Exception {
+        ImageASCIIJFX exporter = imageASCII(image, onDarkBackground, Color.rgb(40, 90, 160));
+        BufferedImage exported = exporter.getImageASCII();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ASCIIGridWriter writer = new ASCIIGridWriter(bytes)) {
+            writer.write(exporter.getGrid());
+        }
+        ASCIIGrid grid;
+        try (ASCIIGridReader reader = new ASCIIGridReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            grid = reader.read();
+        }
+        BufferedImage rendered = new ImageASCIIJFX().render(grid);
+
+        Goldens.assertSimilar(exported, rendered, "exported render of " + name);
+    }
+
+    @Test
+    void gridWithoutPageIsNotCropped() {
+        ASCIIGrid grid = new ASCIIGrid(new Character[]{'#'}, new int[150][250], null, false);
+        BufferedImage rendered = new ImageASCIIJFX().render(grid);
+
+        assertEquals(252 * 10, rendered.getWidth());
+        assertEquals(154 * 15, rendered.getHeight());
+    }
+
+    private static ImageASCIIJFX imageASCII(BufferedImage image, boolean onDarkBackground, Color backgroundColor) {
+        ImageASCIIJFX imageASCII = new ImageASCIIJFX();
+        imageASCII.setWidth(GoldenTextTest.WIDTH);
+        imageASCII.setHeight(GoldenTextTest.HEIGHT);
+        imageASCII.setPageWidth(PAGE_WIDTH);
+        imageASCII.setPageHeight(PAGE_HEIGHT);
+        imageASCII.setSelectedScaleChar(ImageASCIIJFX.Scales.STANDARD);
+        imageASCII.setOnDarkBackground(onDarkBackground);
+        imageASCII.setBackgroundColor(backgroundColor);
+        imageASCII.setUsedFont(FONT);
+        imageASCII.setImageRef(image);
+        return imageASCII;
+    }
+}
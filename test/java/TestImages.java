@@ -0,0 +1,109 @@
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author noe
+ * <p>
+ * Corpus of images used by the regression tests: images generated from a fixed seed and images bundled in
+ * the test resources
+ */
+final class TestImages {
+
+    private static final String[] BUNDLED = {"shapes.png", "text.png"};
+
+    private TestImages() {}
+
+    /**
+     * Return every image of the corpus by name
+     *
+     * @return the images of the corpus, by name
+     */
+    static Map<String, BufferedImage> corpus() {
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        images.put("gradient", gradient(320, 240));
+        images.put("checkerboard", checkerboard(320, 240, 20));
+        images.put("noise", noise(320, 240, 42));
+        images.put("color-bars", colorBars(320, 240));
+        for (String name : BUNDLED) {
+            images.put(name.substring(0, name.lastIndexOf('.')), bundled(name));
+        }
+        return images;
+    }
+
+    /**
+     * Return a diagonal gradient going through red, green and blue
+     */
+    static BufferedImage gradient(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int r = 0; r < height; ++r) {
+            for (int c = 0; c < width; ++c) {
+                int red = 255 * c / (width - 1);
+                int green = 255 * r / (height - 1);
+                int blue = 255 * (c + r) / (width + height - 2);
+                image.setRGB(c, r, red << 16 | green << 8 | blue);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Return a black and white checkerboard
+     */
+    static BufferedImage checkerboard(int width, int height, int square) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int r = 0; r < height; ++r) {
+            for (int c = 0; c < width; ++c) {
+                image.setRGB(c, r, ((r / square + c / square) % 2 == 0) ? 0xFFFFFF : 0x000000);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Return colored noise, the same for a given seed
+     */
+    static BufferedImage noise(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int r = 0; r < height; ++r) {
+            for (int c = 0; c < width; ++c) {
+                image.setRGB(c, r, random.nextInt(1 << 24));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Return vertical bars of saturated colors, with an alpha channel
+     */
+    static BufferedImage colorBars(int width, int height) {
+        int[] colors = {0xFFFFFFFF, 0xFFFFFF00, 0xFF00FFFF, 0xFF00FF00, 0xFFFF00FF, 0xFFFF0000, 0xFF0000FF, 0xFF000000};
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int r = 0; r < height; ++r) {
+            for (int c = 0; c < width; ++c) {
+                image.setRGB(c, r, colors[c * colors.length / width]);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Return an image of the test resources
+     */
+    static BufferedImage bundled(String name) {
+        try (InputStream stream = TestImages.class.getResourceAsStream("/images/" + name)) {
+            if (stream == null) {
+                throw new IOException("Missing test image " + name);
+            }
+            return ImageIO.read(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}